@@ -3,6 +3,7 @@ import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Compile using: javac BST.java
@@ -32,6 +33,7 @@ public class BST {
 
     private static final String ADD_STRING = "add";
     private static final String DELETE_STRING = "delete";
+    static final String NOT_FOUND_STRING = "Not found: ";
     private Node root;
 
     static class Node
@@ -69,32 +71,7 @@ public class BST {
         String inputFileString = args[0];
         String outputFileString = args[1];
         try {
-            BufferedReader readFile = new BufferedReader(new FileReader(inputFileString));
-            String inputFileLine;
-            BufferedWriter writeFile = new BufferedWriter(new FileWriter(outputFileString));
-
-            while ((inputFileLine = readFile.readLine()) != null)
-            {
-                String[] inputLineParts = inputFileLine.split(" "); // space-delimited
-                String commandPart = inputLineParts[0];
-                String keyPart = inputLineParts[1];
-                int valuePart;
-
-                //Call main command functions
-                if (commandPart.equalsIgnoreCase(ADD_STRING))
-                {
-                    valuePart = Integer.parseInt(inputLineParts[2]);
-                    bst.add(keyPart, valuePart);
-                } else if (commandPart.equalsIgnoreCase(DELETE_STRING))
-                {
-                    bst.delete(keyPart, writeFile);
-                }
-
-            }
-            readFile.close();
-            
-            bst.printBySuccessor(bst.root, writeFile);
-            writeFile.close();
+            bst.process(inputFileString, outputFileString);
 
             System.out.println("Processed successfully.");
 
@@ -110,6 +87,55 @@ public class BST {
 
     }
 
+    /* Runs every command of the input file against this tree and writes the results  
+     * 
+     * @param inputFileString - path of the command file
+     * @param outputFileString - path of the output file
+     * @throws IOException - For exception handling on the reader/writer
+     * @throws Exception - For malformed command lines
+     * @return - none
+    */
+    void process(String inputFileString, String outputFileString) throws Exception
+    {
+        try (BufferedReader readFile = new BufferedReader(new FileReader(inputFileString));
+            BufferedWriter writeFile = new BufferedWriter(new FileWriter(outputFileString)))
+        {
+            String inputFileLine;
+            while ((inputFileLine = readFile.readLine()) != null)
+            {
+                execute(inputFileLine, writeFile);
+            }
+
+            printBySuccessor(root, writeFile);
+        }
+    }
+
+    /* Parses and runs a single add/delete command line  
+     * 
+     * @param inputFileLine - the command line, e.g. "add Ethan 1"
+     * @param writer - the output writer (for the non-existent keys)
+     * @throws Exception - For malformed command lines
+     * @return - false if the command deleted a non-existent key; true otherwise
+    */
+    boolean execute(String inputFileLine, BufferedWriter writer) throws Exception
+    {
+        String[] inputLineParts = inputFileLine.split(" "); // space-delimited
+        String commandPart = inputLineParts[0];
+        String keyPart = inputLineParts[1];
+        int valuePart;
+
+        //Call main command functions
+        if (commandPart.equalsIgnoreCase(ADD_STRING))
+        {
+            valuePart = Integer.parseInt(inputLineParts[2]);
+            add(keyPart, valuePart);
+        } else if (commandPart.equalsIgnoreCase(DELETE_STRING))
+        {
+            return delete(keyPart, writer);
+        }
+        return true;
+    }
+
     /* Main handle for adding/inserting key-value pairs  
      * 
      * @param key - key of the new key-value pair
@@ -117,36 +143,78 @@ public class BST {
      * @throws Exception - For exception handling like null, etc.
      * @return - none
     */
-    private void add(String key, int value) throws Exception
+    void add(String key, int value) throws Exception
     {
-        root = addNode(root, key, value,null); // Parent is null initially 
+        addNode(key, value);
     }
 
-    /* Processes adding/inserting key-value pairs into the binary search tree 
+    /* Processes adding/inserting key-value pairs into the binary search tree in a single
+     * descent (iterative, so ascending keys cannot overflow the stack); existing keys are kept
      * 
-     * @param node - node to compare
-     * @param key - key of the current node that will be compared
-     * @param value - value of the current node that will be compared
-     * @param parent - parent node
+     * @param key - key of the new key-value pair
+     * @param value - value of the new key-value pair
      * @throws Exception - For exception handling like null, etc.
-     * @return - Node
+     * @return - none
     */
-    private Node addNode(Node node, String key, int value, Node parent) throws Exception
+    private void addNode(String key, int value) throws Exception
     {
-        if (node == null)
+        Node parentNode = null; // Parent is null initially
+        Node node = root;
+        int comparison = 0;
+        while (node != null)
         {
-            Node newNode = new Node(key, value);
-            newNode.parent = parent;
-            return newNode;
+            comparison = key.compareTo(node.key);
+            if (comparison < 0)
+            {
+                parentNode = node;
+                node = node.left;
+            } else if (comparison > 0)
+            {
+                parentNode = node;
+                node = node.right;
+            } else
+            {
+                return;
+            }
         }
-        if (key.compareTo(node.key) < 0)
+
+        Node newNode = new Node(key, value);
+        newNode.parent = parentNode;
+        if (parentNode == null)
         {
-            node.left = addNode(node.left, key, value, node);
-        } else if (key.compareTo(node.key) > 0)
+            root = newNode;
+        } else if (comparison < 0)
         {
-            node.right = addNode(node.right, key, value, node);
+            parentNode.left = newNode;
+        } else
+        {
+            parentNode.right = newNode;
         }
-        return node;
+    }
+
+    /* Retrieves the node of a key from the BST  
+     * 
+     * @param key - key to look for
+     * @return - node; null if the key is not in the BST
+    */
+    Node find(String key)
+    {
+        Node node = root;
+        while (node != null)
+        {
+            int comparison = key.compareTo(node.key);
+            if (comparison < 0)
+            {
+                node = node.left;
+            } else if (comparison > 0)
+            {
+                node = node.right;
+            } else
+            {
+                return node;
+            }
+        }
+        return null;
     }
 
     /* Main handle for deleting/removing key  
@@ -154,74 +222,68 @@ public class BST {
      * @param key - key of the new key-value pair to be deleted
      * @param writer - the output writer (for the non-existent keys)
      * @throws IOException - For exception handling on the writer
-     * @return - none
+     * @return - true if the key was found and removed; false otherwise
     */
-    private void delete(String key, BufferedWriter writer) throws IOException
+    boolean delete(String key, BufferedWriter writer) throws IOException
     {
-        root = deleteNode(root, key, writer);
-        if (root == null)
+        if (!remove(key))
         {
-            writer.write("Not found: " + key);
+            writer.write(NOT_FOUND_STRING + key);
+            writer.newLine();
+            return false;
         }
-        
+        return true;
     }
 
-    /* Processes deleting/removing key from the binary search tree  
+    /* Processes deleting/removing key from the binary search tree in a single descent  
      * 
-     * @param node - node of the key in the BST
      * @param key - key to be deleted
-     * @param writer - the output writer (for the non-existent keys)
-     * @throws IOException - For exception handling on the writer
-     * @return - node
+     * @return - true if the key was found and removed; false otherwise
     */
-    private Node deleteNode(Node node, String key, BufferedWriter writer) throws IOException
+    boolean remove(String key)
     {
-        // If key not found on BST
+        Node node = find(key);
         if (node == null)
         {
-            writer.write("Not found:" + key);
-            writer.newLine();
-            return null;
+            return false;
         }
 
-        // If key is found on the BST
-        if (key.compareTo(node.key) < 0)
+        if (node.left != null && node.right != null)
         {
-            node.left = deleteNode(node.left, key, writer);
-            if (node.left != null)
-            {
-                node.left.parent = node; //Update parent of the left child
-            }
-        } else if (key.compareTo(node.key) > 0)
-        {
-            node.right = deleteNode(node.right, key, writer);
-            if (node.right != null)
-            {
-                node.right.parent = node; //Update parent of the right child
-            }
-        } else 
-        {
-            // Node to delete found
-            if (node.left == null)
-            {
-                return node.right;
-            } else if (node.right == null)
-            {
-                return node.left;
-            }
-
-            // Node - 2 children
+            // Node - 2 children: take over the successor's pair and unlink the successor,
+            // which has no left child
             Node successorNode = min(node.right);
             node.key = successorNode.key;
             node.value = successorNode.value;
-            // Remove the successor node
-            node.right = deleteNode(node.right, successorNode.key, writer);
-            if (node.right != null)
-            {
-                node.right.parent = node; // Update parent of right child
-            }
+            node = successorNode;
+        }
+        replaceInParent(node, node.left != null ? node.left : node.right);
+        return true;
+    }
+
+    /* Replaces a node by its only child (or nothing) through the node's parent pointer  
+     * 
+     * @param node - node to be unlinked
+     * @param child - the only child of the node; null if the node is a leaf
+     * @return - none
+    */
+    private void replaceInParent(Node node, Node child)
+    {
+        Node parentNode = node.parent;
+        if (child != null)
+        {
+            child.parent = parentNode;
+        }
+        if (parentNode == null)
+        {
+            root = child;
+        } else if (parentNode.left == node)
+        {
+            parentNode.left = child;
+        } else
+        {
+            parentNode.right = child;
         }
-        return node;
     }
 
     /* Retrieves the minimum key from the BST  
@@ -253,6 +315,39 @@ public class BST {
         }
         printBySuccessor(node.left, writer);
     
+        writeNode(node, writer);
+
+        printBySuccessor(node.right, writer);
+            
+
+    } // end of function
+
+    /* Collects the nodes of the tree in key order (used when merging sharded trees)  
+     * 
+     * @param node - node to be evaluated
+     * @param nodes - the list receiving the nodes
+     * @return - none
+    */
+    void collectBySuccessor(Node node, List<Node> nodes)
+    {
+        if (node == null)
+        {
+            return;
+        }
+        collectBySuccessor(node.left, nodes);
+        nodes.add(node);
+        collectBySuccessor(node.right, nodes);
+    }
+
+    /* Writes a single node and its relation to its parent into the output writer  
+     * 
+     * @param node - node to be written into the writer
+     * @param writer - the output writer 
+     * @throws IOException - For exception handling on the writer
+     * @return - none
+    */
+    void writeNode(Node node, BufferedWriter writer) throws IOException
+    {
         writer.write("(" + node.key + ", " + node.value + ")");
 
         Node parentNode = getParent(node);
@@ -268,11 +363,16 @@ public class BST {
             writer.write(" is the root");
         }
         writer.newLine();
+    }
 
-        printBySuccessor(node.right, writer);
-            
-
-    } // end of function
+    /* Retrieves the root of the tree  
+     * 
+     * @return - node
+    */
+    Node getRoot()
+    {
+        return root;
+    }
 
     /* Retrieves the parent of the node  
      * 
@@ -0,0 +1,456 @@
+/**
+ * Compile using: javac BST.java BSTBatch.java
+ * Run using: java BSTBatch input_dir_or_glob output_dir [number_of_threads]
+ * -or-
+ * java BSTBatch --shards number_of_shards input_file output_file
+ *
+ * Batch mode runs many BST command files in a single JVM. Every input file is
+ * processed on its own tree by a pool of worker threads and its results are
+ * written to output_dir/<input_file_name>.out (same format as BST).
+ * Examples:
+ * java BSTBatch logs output 8 (every file in the logs directory except *.out files)
+ * java BSTBatch "logs/*.txt" output (only the .txt files, one thread per CPU)
+ *
+ * Shard mode splits one huge command file across N trees by the hash of the key.
+ * The "Not found" lines are written first in input order, followed by the
+ * merged in-order listing of all the trees. Each shard has its own root, so the
+ * parent/child relations are the ones of the shard the key belongs to.
+ * Example:
+ * java BSTBatch --shards 4 huge_input.txt output.txt
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class BSTBatch {
+
+    private static final String USAGE = "Usage: BSTBatch input_dir_or_glob output_dir [number_of_threads]\n"
+        + "   or: BSTBatch --shards number_of_shards input_file output_file";
+    private static final String SHARDS_STRING = "--shards";
+    private static final String OUTPUT_EXTENSION = ".out";
+    private static final int SHARD_QUEUE_CAPACITY = 1024;
+    private static final long ROUTE_WAIT_MILLIS = 100;
+    private static final Command END_OF_INPUT = new Command(-1, null);
+
+    /* A command line of the input file together with its line number */
+    static class Command
+    {
+        long lineNumber;
+        String line;
+
+        public Command (long lineNumber, String line)
+        {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+    }
+
+    /* The results of one shard: its tree and the "Not found" lines it produced */
+    static class ShardResult
+    {
+        BST bst;
+        List<Command> messages = new ArrayList<>();
+
+        public ShardResult (BST bst)
+        {
+            this.bst = bst;
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        if (args == null || args.length < 2)
+        {
+            System.out.println(USAGE);
+            System.exit(1);
+        } else
+        if (args[0].equals("-h") || args[0].equals("--help"))
+        {
+            System.out.println(USAGE);
+            System.exit(1);
+        } else
+        if (args[0].equals(SHARDS_STRING) && args.length < 4)
+        {
+            System.out.println(USAGE);
+            System.exit(1);
+        }
+
+        BSTBatch batch = new BSTBatch();
+        try
+        {
+            if (args[0].equals(SHARDS_STRING))
+            {
+                int numOfShards = batch.parsePositive(args[1], "Number of shards");
+                batch.processSharded(args[2], args[3], numOfShards);
+                System.out.println("Processed successfully.");
+            } else
+            {
+                int numOfThreads = Runtime.getRuntime().availableProcessors();
+                if (args.length > 2)
+                {
+                    numOfThreads = batch.parsePositive(args[2], "Number of threads");
+                }
+                int failures = batch.processBatch(args[0], args[1], numOfThreads);
+                if (failures > 0)
+                {
+                    System.err.println(failures + " file(s) could not be processed.");
+                    System.exit(1);
+                }
+                System.out.println("Processed successfully.");
+            }
+        } catch (IllegalArgumentException iArgumentException)
+        {
+            System.out.println(iArgumentException.getMessage());
+            System.exit(1);
+        } catch (IOException ioException)
+        {
+            System.err.println("Error in reading or writing into the file:"
+                + ioException.toString());
+            System.exit(1);
+        } catch (Exception exception)
+        {
+            System.err.println(exception.toString());
+            System.exit(1);
+        } catch (Error error)
+        {
+            System.err.println(error.toString());
+            System.exit(1);
+        }
+    }
+
+    /* Parses a strictly positive number from the command line
+     *
+     * @param number - the command line argument
+     * @param name - name of the argument for the error message
+     * @throws IllegalArgumentException - if the argument is not a positive number
+     * @return - the parsed number
+    */
+    private int parsePositive(String number, String name) throws IllegalArgumentException
+    {
+        try
+        {
+            int parsed = Integer.parseInt(number);
+            if (parsed < 1)
+            {
+                throw new IllegalArgumentException(name + " should be positive.");
+            }
+            return parsed;
+        } catch (NumberFormatException numberFormatException)
+        {
+            throw new IllegalArgumentException(name + " should be a positive number.");
+        }
+    }
+
+    /* Processes every input file on its own tree using a pool of worker threads
+     *
+     * @param inputString - a directory or a glob pattern (e.g. logs/*.txt)
+     * @param outputDirString - the directory receiving the <input_file_name>.out files
+     * @param numOfThreads - size of the worker pool
+     * @throws IOException - For exception handling on listing the files
+     * @throws InterruptedException - if interrupted while waiting for the workers
+     * @return - number of files that failed
+    */
+    int processBatch(String inputString, String outputDirString, int numOfThreads)
+        throws IOException, InterruptedException
+    {
+        List<Path> inputFiles = listInputFiles(inputString);
+        if (inputFiles.isEmpty())
+        {
+            throw new IllegalArgumentException("No input files found: " + inputString);
+        }
+        Path outputDir = Paths.get(outputDirString);
+        Files.createDirectories(outputDir);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(numOfThreads, inputFiles.size()));
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Path inputFile : inputFiles)
+            {
+                Path outputFile = outputDir.resolve(inputFile.getFileName() + OUTPUT_EXTENSION);
+                futures.add(pool.submit(() -> {
+                    new BST().process(inputFile.toString(), outputFile.toString());
+                    return null;
+                }));
+            }
+
+            int failures = 0;
+            for (int index = 0; index < futures.size(); index++)
+            {
+                try
+                {
+                    futures.get(index).get();
+                } catch (ExecutionException executionException)
+                {
+                    failures++;
+                    System.err.println("Error in processing " + inputFiles.get(index) + ": "
+                        + executionException.getCause().toString());
+                }
+            }
+            return failures;
+        } finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /* Lists the regular files of a directory (skipping *.out outputs) or the files matching a glob pattern
+     *
+     * @param inputString - a directory or a glob pattern (e.g. logs/*.txt)
+     * @throws IOException - For exception handling on listing the files
+     * @return - the input files sorted by name
+    */
+    private List<Path> listInputFiles(String inputString) throws IOException
+    {
+        Path inputPath = Paths.get(inputString);
+        Path directory;
+        String pattern;
+        boolean skipOutputs = false;
+        if (Files.isDirectory(inputPath))
+        {
+            directory = inputPath;
+            pattern = "*";
+            skipOutputs = true; // Outputs of an earlier run into the same directory
+        } else
+        {
+            directory = inputPath.getParent() == null ? Paths.get("") : inputPath.getParent();
+            pattern = inputPath.getFileName().toString();
+        }
+
+        PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + pattern);
+        List<Path> inputFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toAbsolutePath()))
+        {
+            for (Path file : stream)
+            {
+                if (Files.isRegularFile(file) && matcher.matches(file.getFileName())
+                    && !(skipOutputs && file.getFileName().toString().endsWith(OUTPUT_EXTENSION)))
+                {
+                    inputFiles.add(file);
+                }
+            }
+        }
+        inputFiles.sort(null);
+        return inputFiles;
+    }
+
+    /* Splits one command file across several trees by the hash of the key
+     *
+     * @param inputFileString - path of the command file
+     * @param outputFileString - path of the output file
+     * @param numOfShards - number of trees (and worker threads)
+     * @throws Exception - For exception handling on the files and malformed commands
+     * @return - none
+    */
+    void processSharded(String inputFileString, String outputFileString, int numOfShards) throws Exception
+    {
+        List<BlockingQueue<Command>> queues = new ArrayList<>();
+        List<Future<ShardResult>> futures = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(numOfShards);
+        try
+        {
+            for (int shard = 0; shard < numOfShards; shard++)
+            {
+                BlockingQueue<Command> queue = new ArrayBlockingQueue<>(SHARD_QUEUE_CAPACITY);
+                queues.add(queue);
+                futures.add(pool.submit(() -> runShard(queue)));
+            }
+
+            // The reader only routes lines; the trees are built by the shard workers.
+            // Routing stops as soon as a shard has failed; the failure is reported below.
+            try (BufferedReader readFile = new BufferedReader(new FileReader(inputFileString)))
+            {
+                String inputFileLine;
+                long lineNumber = 0;
+                while ((inputFileLine = readFile.readLine()) != null)
+                {
+                    int shard = shardOf(inputFileLine, numOfShards);
+                    if (!route(queues.get(shard), futures.get(shard), new Command(lineNumber++, inputFileLine)))
+                    {
+                        break;
+                    }
+                }
+            } finally
+            {
+                for (int shard = 0; shard < numOfShards; shard++)
+                {
+                    route(queues.get(shard), futures.get(shard), END_OF_INPUT);
+                }
+            }
+
+            List<ShardResult> results = new ArrayList<>();
+            for (Future<ShardResult> future : futures)
+            {
+                try
+                {
+                    results.add(future.get());
+                } catch (ExecutionException executionException)
+                {
+                    if (executionException.getCause() instanceof Error)
+                    {
+                        throw (Error) executionException.getCause();
+                    }
+                    if (executionException.getCause() instanceof Exception)
+                    {
+                        throw (Exception) executionException.getCause();
+                    }
+                    throw executionException;
+                }
+            }
+
+            try (BufferedWriter writeFile = new BufferedWriter(new FileWriter(outputFileString)))
+            {
+                writeMerged(results, writeFile);
+            }
+        } finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /* Hands a command to a shard, waiting while its queue is full as long as the shard runs
+     *
+     * @param queue - the commands routed to the shard
+     * @param future - the shard worker
+     * @param command - the command to hand over
+     * @throws InterruptedException - if interrupted while waiting
+     * @return - true if handed over; false if the shard has already stopped
+    */
+    private boolean route(BlockingQueue<Command> queue, Future<ShardResult> future, Command command)
+        throws InterruptedException
+    {
+        while (!queue.offer(command, ROUTE_WAIT_MILLIS, TimeUnit.MILLISECONDS))
+        {
+            if (future.isDone())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Picks the shard of a command line from the hash of its key
+     *
+     * @param inputFileLine - the command line, e.g. "add Ethan 1"
+     * @param numOfShards - number of trees
+     * @return - index of the shard
+    */
+    private int shardOf(String inputFileLine, int numOfShards)
+    {
+        return Math.floorMod(keyOf(inputFileLine).hashCode(), numOfShards);
+    }
+
+    /* Retrieves the key (second space-delimited part) of a command line
+     *
+     * @param inputFileLine - the command line, e.g. "add Ethan 1"
+     * @return - the key
+    */
+    private String keyOf(String inputFileLine)
+    {
+        int start = inputFileLine.indexOf(' ') + 1;
+        int end = inputFileLine.indexOf(' ', start);
+        return end < 0 ? inputFileLine.substring(start) : inputFileLine.substring(start, end);
+    }
+
+    /* Runs the commands of one shard on its own tree until the end of the input
+     *
+     * @param queue - the commands routed to this shard
+     * @throws Exception - For malformed commands
+     * @return - the tree and the "Not found" lines of the shard
+    */
+    private ShardResult runShard(BlockingQueue<Command> queue) throws Exception
+    {
+        ShardResult result = new ShardResult(new BST());
+        // The shard records its own "Not found" lines, so the tree's writer output is discarded
+        BufferedWriter writer = new BufferedWriter(Writer.nullWriter());
+
+        try
+        {
+            Command command;
+            while ((command = queue.take()) != END_OF_INPUT)
+            {
+                if (!result.bst.execute(command.line, writer))
+                {
+                    result.messages.add(new Command(command.lineNumber,
+                        BST.NOT_FOUND_STRING + keyOf(command.line)));
+                }
+            }
+        } catch (Throwable throwable)
+        {
+            // Also covers errors such as StackOverflowError on a degenerate (sorted) log;
+            // the reader sees the finished future and stops routing to this shard
+            queue.clear();
+            throw throwable;
+        }
+        return result;
+    }
+
+    /* Writes the "Not found" lines in input order, then the merged in-order listing of all trees
+     *
+     * @param results - the results of every shard
+     * @param writer - the output writer
+     * @throws IOException - For exception handling on the writer
+     * @return - none
+    */
+    private void writeMerged(List<ShardResult> results, BufferedWriter writer) throws IOException
+    {
+        List<Command> messages = new ArrayList<>();
+        for (ShardResult result : results)
+        {
+            messages.addAll(result.messages);
+        }
+        messages.sort((first, second) -> Long.compare(first.lineNumber, second.lineNumber));
+        for (Command message : messages)
+        {
+            writer.write(message.line);
+            writer.newLine();
+        }
+
+        // k-way merge of the in-order listings; each entry is {shard, position}
+        List<List<BST.Node>> listings = new ArrayList<>();
+        for (ShardResult result : results)
+        {
+            List<BST.Node> nodes = new ArrayList<>();
+            result.bst.collectBySuccessor(result.bst.getRoot(), nodes);
+            listings.add(nodes);
+        }
+        PriorityQueue<int[]> heads = new PriorityQueue<>((first, second) ->
+            listings.get(first[0]).get(first[1]).key.compareTo(listings.get(second[0]).get(second[1]).key));
+        for (int shard = 0; shard < listings.size(); shard++)
+        {
+            if (!listings.get(shard).isEmpty())
+            {
+                heads.add(new int[] {shard, 0});
+            }
+        }
+        while (!heads.isEmpty())
+        {
+            int[] head = heads.poll();
+            List<BST.Node> nodes = listings.get(head[0]);
+            results.get(head[0]).bst.writeNode(nodes.get(head[1]), writer);
+            if (head[1] + 1 < nodes.size())
+            {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/**
+ * Compile using: javac BST.java BSTDeleteBenchmark.java
+ * Run using: java BSTDeleteBenchmark [number_of_keys] [number_of_rounds]
+ * For example: java BSTDeleteBenchmark 200000 10
+ *
+ * Replays a delete-heavy command log (every key deleted in random order, plus one
+ * missing key for every four deletes) against the single-descent BST.remove and
+ * against the previous recursive deleteNode, and prints the time per round of each.
+ * Both paths are first checked to leave the same tree behind.
+ * Defaults: 200000 keys, 10 rounds.
+ */
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class BSTDeleteBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    // "Not found" lines are not part of the measurement
+    private final BufferedWriter discardWriter = new BufferedWriter(Writer.nullWriter());
+
+    public static void main(String[] args)
+    {
+        if (args != null && args.length > 0 && (args[0].equals("-h") || args[0].equals("--help")))
+        {
+            System.out.println("Usage: BSTDeleteBenchmark [number_of_keys] [number_of_rounds]");
+            System.exit(1);
+        }
+
+        int numOfKeys = 200000;
+        int numOfRounds = 10;
+        try
+        {
+            if (args.length > 0)
+            {
+                numOfKeys = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1)
+            {
+                numOfRounds = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException numberFormatException)
+        {
+            System.out.println("Arguments should be positive numbers.");
+            System.exit(1);
+        }
+        if (numOfKeys < 1 || numOfRounds < 1)
+        {
+            System.out.println("Arguments should be positive.");
+            System.exit(1);
+        }
+
+        BSTDeleteBenchmark benchmark = new BSTDeleteBenchmark();
+        try
+        {
+            benchmark.run(numOfKeys, numOfRounds);
+        } catch (Exception exception)
+        {
+            System.err.println(exception.toString());
+            System.exit(1);
+        }
+    }
+
+    /* Checks both delete paths, then times them round by round
+     *
+     * @param numOfKeys - number of keys added and then deleted per round
+     * @param numOfRounds - number of measured rounds
+     * @throws Exception - For exception handling on the tree
+     * @return - none
+    */
+    void run(int numOfKeys, int numOfRounds) throws Exception
+    {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int index = 0; index < numOfKeys; index++)
+        {
+            keys.add("key" + index);
+        }
+        Collections.shuffle(keys, random);
+
+        List<String> deletes = new ArrayList<>(keys);
+        for (int index = 0; index < numOfKeys / 4; index++)
+        {
+            deletes.add("missing" + index);
+        }
+        Collections.shuffle(deletes, random);
+
+        verify(keys, deletes.subList(0, deletes.size() / 2));
+
+        long legacyNanos = 0;
+        long removeNanos = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + numOfRounds; round++)
+        {
+            long remove = timeRemove(keys, deletes);
+            long legacy = timeLegacy(keys, deletes);
+            if (round >= WARMUP_ROUNDS)
+            {
+                legacyNanos += legacy;
+                removeNanos += remove;
+            }
+        }
+
+        System.out.println("Keys: " + numOfKeys + ", deletes: " + deletes.size()
+            + ", rounds: " + numOfRounds);
+        System.out.printf("Recursive deleteNode: %.2f ms/round%n", legacyNanos / 1e6 / numOfRounds);
+        System.out.printf("Single-descent remove: %.2f ms/round%n", removeNanos / 1e6 / numOfRounds);
+        System.out.printf("Speedup: %.2fx%n", (double) legacyNanos / removeNanos);
+    }
+
+    /* Checks that both delete paths leave the same keys, values and parent links
+     *
+     * @param keys - keys to add
+     * @param deletes - keys to delete
+     * @throws Exception - if the trees differ
+     * @return - none
+    */
+    private void verify(List<String> keys, List<String> deletes) throws Exception
+    {
+        BST legacyTree = build(keys);
+        BST.Node legacyRoot = legacyTree.getRoot();
+        for (String key : deletes)
+        {
+            legacyRoot = legacyDeleteNode(legacyRoot, key, discardWriter);
+        }
+
+        BST removeTree = build(keys);
+        for (String key : deletes)
+        {
+            removeTree.remove(key);
+        }
+
+        List<BST.Node> legacyNodes = new ArrayList<>();
+        List<BST.Node> removeNodes = new ArrayList<>();
+        legacyTree.collectBySuccessor(legacyRoot, legacyNodes);
+        removeTree.collectBySuccessor(removeTree.getRoot(), removeNodes);
+        if (legacyNodes.size() != removeNodes.size())
+        {
+            throw new IllegalStateException("Delete paths disagree on the number of keys.");
+        }
+        for (int index = 0; index < legacyNodes.size(); index++)
+        {
+            BST.Node legacy = legacyNodes.get(index);
+            BST.Node remove = removeNodes.get(index);
+            boolean sameParent = legacy.parent == null || legacy == legacyRoot
+                ? remove.parent == null
+                : remove.parent != null && legacy.parent.key.equals(remove.parent.key);
+            if (!legacy.key.equals(remove.key) || legacy.value != remove.value || !sameParent)
+            {
+                throw new IllegalStateException("Delete paths disagree at key " + legacy.key);
+            }
+        }
+    }
+
+    /* Times one round of the single-descent remove (tree building not included)
+     *
+     * @param keys - keys to add
+     * @param deletes - keys to delete
+     * @throws Exception - For exception handling on the tree
+     * @return - elapsed nanoseconds
+    */
+    private long timeRemove(List<String> keys, List<String> deletes) throws Exception
+    {
+        BST bst = build(keys);
+        long start = System.nanoTime();
+        for (String key : deletes)
+        {
+            bst.delete(key, discardWriter);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /* Times one round of the recursive deleteNode (tree building not included)
+     *
+     * @param keys - keys to add
+     * @param deletes - keys to delete
+     * @throws Exception - For exception handling on the tree
+     * @return - elapsed nanoseconds
+    */
+    private long timeLegacy(List<String> keys, List<String> deletes) throws Exception
+    {
+        BST.Node root = build(keys).getRoot();
+        long start = System.nanoTime();
+        for (String key : deletes)
+        {
+            root = legacyDeleteNode(root, key, discardWriter);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /* Builds a tree from the keys; the value of a key is its insertion index
+     *
+     * @param keys - keys to add
+     * @throws Exception - For exception handling on the tree
+     * @return - the tree
+    */
+    private BST build(List<String> keys) throws Exception
+    {
+        BST bst = new BST();
+        for (int index = 0; index < keys.size(); index++)
+        {
+            bst.add(keys.get(index), index);
+        }
+        return bst;
+    }
+
+    /* The previous BST.deleteNode, kept here as the baseline of the benchmark
+     *
+     * @param node - node of the key in the BST
+     * @param key - key to be deleted
+     * @param writer - the output writer (for the non-existent keys)
+     * @throws IOException - For exception handling on the writer
+     * @return - node
+    */
+    private BST.Node legacyDeleteNode(BST.Node node, String key, BufferedWriter writer) throws IOException
+    {
+        if (node == null)
+        {
+            writer.write("Not found:" + key);
+            writer.newLine();
+            return null;
+        }
+
+        if (key.compareTo(node.key) < 0)
+        {
+            node.left = legacyDeleteNode(node.left, key, writer);
+            if (node.left != null)
+            {
+                node.left.parent = node;
+            }
+        } else if (key.compareTo(node.key) > 0)
+        {
+            node.right = legacyDeleteNode(node.right, key, writer);
+            if (node.right != null)
+            {
+                node.right.parent = node;
+            }
+        } else
+        {
+            if (node.left == null)
+            {
+                return node.right;
+            } else if (node.right == null)
+            {
+                return node.left;
+            }
+
+            BST.Node successorNode = node.right;
+            while (successorNode.left != null)
+            {
+                successorNode = successorNode.left;
+            }
+            node.key = successorNode.key;
+            node.value = successorNode.value;
+            node.right = legacyDeleteNode(node.right, successorNode.key, writer);
+            if (node.right != null)
+            {
+                node.right.parent = node;
+            }
+        }
+        return node;
+    }
+}
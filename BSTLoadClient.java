@@ -0,0 +1,236 @@
+/**
+ * Compile using: javac BSTLoadClient.java
+ * Run using: java BSTLoadClient [port] [number_of_requests] [number_of_connections] [pipeline_depth]
+ * For example: java BSTLoadClient 7070 200000 4 64
+ *
+ * Local load generator for BSTServer. Every connection keeps up to pipeline_depth
+ * requests in flight with a mix of add/delete/get/sort requests, then the client
+ * reports the throughput and the p50/p99/max latency of all the requests.
+ * Defaults: port 7070, 100000 requests, 4 connections, pipeline depth 32.
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BSTLoadClient {
+
+    private static final String USAGE =
+        "Usage: BSTLoadClient [port] [number_of_requests] [number_of_connections] [pipeline_depth]";
+    private static final int NUMBER_OF_KEYS = 10000;
+    private static final int SORT_SIZE = 16;
+
+    public static void main(String[] args)
+    {
+        if (args != null && args.length > 0 && (args[0].equals("-h") || args[0].equals("--help")))
+        {
+            System.out.println(USAGE);
+            System.exit(1);
+        }
+
+        int[] settings = {7070, 100000, 4, 32}; // port, requests, connections, pipeline depth
+        try
+        {
+            for (int index = 0; index < args.length && index < settings.length; index++)
+            {
+                settings[index] = Integer.parseInt(args[index]);
+                if (settings[index] < 1)
+                {
+                    System.out.println("Arguments should be positive.");
+                    System.exit(1);
+                }
+            }
+        } catch (NumberFormatException numberFormatException)
+        {
+            System.out.println("Arguments should be positive numbers.");
+            System.exit(1);
+        }
+
+        BSTLoadClient client = new BSTLoadClient();
+        try
+        {
+            client.run(settings[0], settings[1], settings[2], settings[3]);
+        } catch (Exception exception)
+        {
+            System.err.println("Error in running the load:" + exception.toString());
+            System.exit(1);
+        }
+    }
+
+    /* Runs the load on all the connections and prints the report
+     *
+     * @param port - port of the BSTServer
+     * @param numOfRequests - total number of requests over all the connections
+     * @param numOfConnections - number of parallel connections
+     * @param depth - maximum number of requests in flight per connection
+     * @throws Exception - For exception handling on the connections
+     * @return - none
+    */
+    void run(int port, int numOfRequests, int numOfConnections, int depth) throws Exception
+    {
+        long[][] latencies = new long[numOfConnections][];
+        Thread[] threads = new Thread[numOfConnections];
+        Exception[] failures = new Exception[numOfConnections];
+
+        long start = System.nanoTime();
+        for (int connection = 0; connection < numOfConnections; connection++)
+        {
+            int share = numOfRequests / numOfConnections
+                + (connection < numOfRequests % numOfConnections ? 1 : 0);
+            int current = connection;
+            latencies[connection] = new long[share];
+            threads[connection] = new Thread(() -> {
+                try
+                {
+                    runConnection(port, latencies[current], depth, new Random(current));
+                } catch (Exception exception)
+                {
+                    failures[current] = exception;
+                }
+            });
+            threads[connection].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Exception failure : failures)
+        {
+            if (failure != null)
+            {
+                throw failure;
+            }
+        }
+
+        long[] all = new long[numOfRequests];
+        int position = 0;
+        for (long[] connectionLatencies : latencies)
+        {
+            System.arraycopy(connectionLatencies, 0, all, position, connectionLatencies.length);
+            position += connectionLatencies.length;
+        }
+        Arrays.sort(all);
+
+        System.out.println("Requests:    " + numOfRequests + " over " + numOfConnections
+            + " connection(s), pipeline depth " + depth);
+        System.out.printf("Throughput:  %.0f requests/s%n", numOfRequests / (elapsed / 1e9));
+        System.out.printf("Latency p50: %.1f us%n", percentile(all, 0.50) / 1e3);
+        System.out.printf("Latency p99: %.1f us%n", percentile(all, 0.99) / 1e3);
+        System.out.printf("Latency max: %.1f us%n", all[all.length - 1] / 1e3);
+    }
+
+    /* Sends the requests of one connection and records the latency of every response
+     *
+     * @param port - port of the BSTServer
+     * @param latencies - receives the latency (in nanoseconds) of every request
+     * @param depth - maximum number of requests in flight
+     * @param random - source of the request mix
+     * @throws Exception - For exception handling on the connection
+     * @return - none
+    */
+    private void runConnection(int port, long[] latencies, int depth, Random random) throws Exception
+    {
+        AtomicLongArray sentAt = new AtomicLongArray(latencies.length); // written by the sender
+        Semaphore window = new Semaphore(depth);
+        Exception[] senderFailure = new Exception[1];
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))
+        {
+            socket.setTcpNoDelay(true);
+
+            // The sender pipelines requests; this thread reads the responses in order
+            Thread sender = new Thread(() -> {
+                try
+                {
+                    for (int index = 0; index < sentAt.length(); index++)
+                    {
+                        if (!window.tryAcquire())
+                        {
+                            writer.flush(); // Window is full; push what is buffered
+                            window.acquire();
+                        }
+                        sentAt.set(index, System.nanoTime());
+                        writer.write(nextRequest(random));
+                        writer.newLine();
+                    }
+                    writer.flush();
+                } catch (Exception exception)
+                {
+                    senderFailure[0] = exception;
+                }
+            });
+            sender.start();
+
+            for (int index = 0; index < latencies.length; index++)
+            {
+                String response = reader.readLine();
+                if (response == null)
+                {
+                    throw new IOException("Connection closed by the server.");
+                }
+                latencies[index] = System.nanoTime() - sentAt.get(index);
+                window.release();
+            }
+            sender.join();
+        }
+        if (senderFailure[0] != null)
+        {
+            throw senderFailure[0];
+        }
+    }
+
+    /* Generates the next request: 40% add, 20% delete, 35% get and 5% sort
+     *
+     * @param random - source of the request mix
+     * @return - the request line
+    */
+    private String nextRequest(Random random)
+    {
+        int kind = random.nextInt(100);
+        String key = "key" + random.nextInt(NUMBER_OF_KEYS);
+        if (kind < 40)
+        {
+            return "add " + key + " " + random.nextInt(1000);
+        } else if (kind < 60)
+        {
+            return "delete " + key;
+        } else if (kind < 95)
+        {
+            return "get " + key;
+        }
+
+        StringBuilder sbRequest = new StringBuilder("sort numeric");
+        for (int index = 0; index < SORT_SIZE; index++)
+        {
+            sbRequest.append(" ").append(random.nextInt(1000));
+        }
+        return sbRequest.toString();
+    }
+
+    /* Retrieves a percentile from sorted latencies
+     *
+     * @param sorted - the latencies in ascending order
+     * @param fraction - the percentile, e.g. 0.99
+     * @return - the latency at that percentile
+    */
+    private long percentile(long[] sorted, double fraction)
+    {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Compile using: javac BST.java Sorter.java BSTServer.java
+ * Run using: java BSTServer [port]
+ * For example: java BSTServer 7070 (7070 is the default port)
+ *
+ * Keeps one warmed-up JVM and one in-memory BST alive and serves requests over a
+ * TCP socket bound to the loopback address. Every request is one line and gets
+ * exactly one response line, in the order the requests were sent:
+ * add <key> <value>                     -> OK
+ * delete <key>                          -> OK -or- Not found: <key>
+ * get <key>                             -> <value> -or- Not found: <key>
+ * sort <numeric|text> <item> <item> ... -> the sorted items, space-delimited
+ * quit                                  -> closes the connection
+ * Malformed requests are answered with: ERROR <message>
+ *
+ * Requests may be pipelined: every request already received is handled as one
+ * batch (the tree is locked once per batch) and the responses are flushed together.
+ * Examples:
+ * add Ethan 1 (OK)
+ * get Ethan (1)
+ * sort numeric 3 1 2 (1 2 3)
+ */
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BSTServer {
+
+    static final int DEFAULT_PORT = 7070;
+    private static final String USAGE = "Usage: BSTServer [port]";
+    private static final String ADD_STRING = "add";
+    private static final String DELETE_STRING = "delete";
+    private static final String GET_STRING = "get";
+    private static final String SORT_STRING = "sort";
+    private static final String QUIT_STRING = "quit";
+    private static final String OK_STRING = "OK";
+    private static final String ERROR_STRING = "ERROR ";
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final BST bst = new BST();
+    private final Sorter sorter = new Sorter();
+
+    public static void main(String[] args)
+    {
+        int port = DEFAULT_PORT;
+        if (args != null && args.length > 0)
+        {
+            if (args[0].equals("-h") || args[0].equals("--help"))
+            {
+                System.out.println(USAGE);
+                System.exit(1);
+            }
+            try
+            {
+                port = Integer.parseInt(args[0]);
+            } catch (NumberFormatException numberFormatException)
+            {
+                System.out.println("Port should be a number.");
+                System.exit(1);
+            }
+        }
+
+        BSTServer server = new BSTServer();
+        try
+        {
+            server.serve(port);
+        } catch (IOException ioException)
+        {
+            System.err.println("Error in opening the server socket:" + ioException.toString());
+            System.exit(1);
+        }
+    }
+
+    /* Accepts connections on the loopback address until the JVM is stopped
+     *
+     * @param port - the TCP port to listen on
+     * @throws IOException - For exception handling on the server socket
+     * @return - none
+    */
+    void serve(int port) throws IOException
+    {
+        ExecutorService connections = Executors.newCachedThreadPool();
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress()))
+        {
+            System.out.println("Listening on " + serverSocket.getLocalSocketAddress());
+            while (true)
+            {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handleConnection(socket));
+            }
+        } finally
+        {
+            connections.shutdownNow();
+        }
+    }
+
+    /* Reads pipelined requests from one client and answers them batch by batch
+     *
+     * @param socket - the client connection
+     * @return - none
+    */
+    private void handleConnection(Socket socket)
+    {
+        try (socket;
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))
+        {
+            socket.setTcpNoDelay(true);
+            List<String> batch = new ArrayList<>();
+            String requestLine;
+            while ((requestLine = reader.readLine()) != null)
+            {
+                // Gather every request that is already buffered into the same batch
+                batch.clear();
+                batch.add(requestLine);
+                boolean quit = requestLine.trim().equalsIgnoreCase(QUIT_STRING);
+                while (!quit && batch.size() < MAX_BATCH_SIZE && reader.ready()
+                    && (requestLine = reader.readLine()) != null)
+                {
+                    batch.add(requestLine);
+                    quit = requestLine.trim().equalsIgnoreCase(QUIT_STRING);
+                }
+
+                for (String response : handleBatch(batch))
+                {
+                    if (response != null)
+                    {
+                        writer.write(response);
+                        writer.newLine();
+                    }
+                }
+                writer.flush();
+                if (quit)
+                {
+                    return;
+                }
+            }
+        } catch (IOException ioException)
+        {
+            System.err.println("Error in reading or writing on the connection:" + ioException.toString());
+        } catch (RuntimeException | Error throwable)
+        {
+            System.err.println("Error in handling a batch on the connection:" + throwable.toString());
+        }
+    }
+
+    /* Answers a batch of requests; the sorts run first without the tree lock, then
+     * all the tree requests of the batch run under a single lock
+     *
+     * @param batch - the request lines in the order they were received
+     * @return - the response lines in the same order; null for quit
+    */
+    String[] handleBatch(List<String> batch)
+    {
+        String[] responses = new String[batch.size()];
+        String[][] requests = new String[batch.size()][];
+        boolean hasTreeRequests = false;
+
+        for (int index = 0; index < batch.size(); index++)
+        {
+            requests[index] = batch.get(index).trim().split(" +"); // space-delimited
+            if (requests[index][0].equalsIgnoreCase(SORT_STRING))
+            {
+                responses[index] = handleSort(requests[index]);
+                requests[index] = null;
+            } else
+            if (requests[index][0].equalsIgnoreCase(QUIT_STRING))
+            {
+                requests[index] = null;
+            } else
+            {
+                hasTreeRequests = true;
+            }
+        }
+
+        if (hasTreeRequests)
+        {
+            synchronized (bst)
+            {
+                for (int index = 0; index < requests.length; index++)
+                {
+                    if (requests[index] != null)
+                    {
+                        responses[index] = handleTreeRequest(requests[index]);
+                    }
+                }
+            }
+        }
+        return responses;
+    }
+
+    /* Runs one add/delete/get request against the tree; the caller holds the tree lock
+     *
+     * @param requestParts - the request split on spaces
+     * @return - the response line
+    */
+    private String handleTreeRequest(String[] requestParts)
+    {
+        String commandPart = requestParts[0];
+        try
+        {
+            if (commandPart.equalsIgnoreCase(ADD_STRING) && requestParts.length == 3)
+            {
+                bst.add(requestParts[1], Integer.parseInt(requestParts[2]));
+                return OK_STRING;
+            } else
+            if (commandPart.equalsIgnoreCase(DELETE_STRING) && requestParts.length == 2)
+            {
+                return bst.remove(requestParts[1]) ? OK_STRING : BST.NOT_FOUND_STRING + requestParts[1];
+            } else
+            if (commandPart.equalsIgnoreCase(GET_STRING) && requestParts.length == 2)
+            {
+                BST.Node node = bst.find(requestParts[1]);
+                if (node == null)
+                {
+                    return BST.NOT_FOUND_STRING + requestParts[1];
+                }
+                return String.valueOf(node.value);
+            }
+            return ERROR_STRING + "Unknown request: " + String.join(" ", requestParts);
+        } catch (NumberFormatException numberFormatException)
+        {
+            return ERROR_STRING + "Value should be a number.";
+        } catch (Exception exception)
+        {
+            return ERROR_STRING + exception.toString();
+        } catch (StackOverflowError stackOverflowError)
+        {
+            // A descent only links nodes once it completes, so the tree is unchanged
+            return ERROR_STRING + stackOverflowError.toString();
+        }
+    }
+
+    /* Sorts the items of a sort request with the merge sort of Sorter
+     *
+     * @param requestParts - the request split on spaces: sort <mode> <item> ...
+     * @return - the sorted items space-delimited, or an error line
+    */
+    private String handleSort(String[] requestParts)
+    {
+        if (requestParts.length < 2
+            || !(requestParts[1].equals("numeric") || requestParts[1].equals("text")))
+        {
+            return ERROR_STRING + "Mode must be numeric or text.";
+        }
+        String[] strArray = Arrays.copyOfRange(requestParts, 2, requestParts.length);
+        try
+        {
+            StringBuilder sbContent = new StringBuilder();
+            if (requestParts[1].equals("numeric"))
+            {
+                int[] integerArray = sorter.convertStringArrayToInteger(strArray);
+                sorter.mainMergeSort(true, integerArray, null, 0, integerArray.length - 1);
+                for (int index = 0; index < integerArray.length; index++)
+                {
+                    sbContent.append(index == 0 ? "" : " ").append(integerArray[index]);
+                }
+            } else
+            {
+                sorter.mainMergeSort(false, null, strArray, 0, strArray.length - 1);
+                sbContent.append(String.join(" ", strArray));
+            }
+            return sbContent.toString();
+        } catch (NumberFormatException numberFormatException)
+        {
+            return ERROR_STRING + "Items should be numbers in numeric mode.";
+        } catch (ArrayIndexOutOfBoundsException arrayException)
+        {
+            return ERROR_STRING + arrayException.getMessage().trim();
+        }
+    }
+}
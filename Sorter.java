@@ -131,7 +131,7 @@ public class Sorter {
      * @param arrStrings - contents in String array form that needs to be converted
      * @return - converted contents in integer array form
     */
-    private int[] convertStringArrayToInteger(String[] arrStrings)
+    int[] convertStringArrayToInteger(String[] arrStrings)
     {
         int[] arrIntegers = new int[arrStrings.length];
 
@@ -203,7 +203,7 @@ public class Sorter {
      * @param bottom - the bottom item in the array (the highest after mergesorted)
      * @throws - ArrayIndexOutOfBoundsException - exception handling for arrays
     */
-    private void mainMergeSort (boolean isNumeric, int[] arrMergeList, String[] arrMergeStringList, 
+    void mainMergeSort (boolean isNumeric, int[] arrMergeList, String[] arrMergeStringList, 
             int top, int bottom) throws ArrayIndexOutOfBoundsException
     {
         try